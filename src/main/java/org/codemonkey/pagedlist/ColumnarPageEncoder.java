@@ -0,0 +1,525 @@
+package org.codemonkey.pagedlist;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link PageEncoder} that transposes a page of objects into columns, so that a cached page no longer holds on to its individual
+ * objects. Each column is stored in the most compact of the following forms:
+ * <ul>
+ * <li>run-length encoded, for columns with long runs of equal values (ie. a sorted status field);</li>
+ * <li>dictionary encoded using <code>byte</code> or <code>short</code> codes, for low-cardinality columns;</li>
+ * <li>an <code>int</code>, <code>long</code> or <code>double</code> array or a bit set, for columns holding only non-null
+ * <code>Integer</code>, <code>Long</code>, <code>Double</code> or <code>Boolean</code> values, or a <code>long</code> array of
+ * milliseconds for columns holding only non-null <code>java.util.Date</code>, <code>java.sql.Date</code> or <code>java.sql.Time</code>
+ * values of a single type;</li>
+ * <li>a plain value array otherwise (including <code>java.sql.Timestamp</code> columns, which would lose their nanoseconds).</li>
+ * </ul>
+ * Run-length and dictionary encoding store a single instance for many rows, so they are only applied to columns of immutable values
+ * (strings, enums, boxed primitives, <code>BigDecimal</code> and <code>BigInteger</code>). Dates, including <code>Timestamp</code>s, are
+ * recreated or copied on every read. Other mutable values can only end up in a plain column, which returns the same instance on every read
+ * of its row, just like an unencoded page would: modifying such a value modifies the cached page.
+ * <p>
+ * Items are reconstructed using {@link ColumnMapping#createDto(Object[])} on every {@link List#get(int)}, so the encoded page returns new
+ * (equal) instances rather than the instances originally provided. Columns can be read without reconstructing items through
+ * {@link PagedList#getColumnValue(int, int)} and, without boxing, through {@link PagedList#getIntColumnValues(int, int, int)} and its
+ * <code>long</code>, <code>double</code> and <code>boolean</code> counterparts.
+ *
+ * @author Benny Bottema
+ * @param <TDto> The object type of (remotely) persisted objects.
+ */
+public class ColumnarPageEncoder<TDto> implements PageEncoder<TDto> {
+
+	/**
+	 * Describes how an item is split up into column values and how it is put back together again.
+	 *
+	 * @author Benny Bottema
+	 * @param <TDto> See {@link ColumnarPageEncoder}.
+	 */
+	public static interface ColumnMapping<TDto> {
+		/**
+		 * @return The number of columns each item is split up into.
+		 */
+		int getColumnCount();
+
+		/**
+		 * @param dto The item to read the value from.
+		 * @param column The column index, ranging from 0 to {@link #getColumnCount()} (exclusive).
+		 * @return The item's value for the given column. Can be <code>null</code>. Values of immutable types may be shared between
+		 *         reconstructed items, values of other types (except dates) between reconstructions of the same item, see
+		 *         {@link ColumnarPageEncoder}.
+		 */
+		Object getColumnValue(TDto dto, int column);
+
+		/**
+		 * @param columnValues The values as returned by {@link #getColumnValue(Object, int)}, ordered by column index.
+		 * @return A new item equivalent to the one the column values were taken from.
+		 */
+		TDto createDto(Object[] columnValues);
+	}
+
+	/**
+	 * Dictionaries larger than this can't be addressed with <code>short</code> codes.
+	 */
+	private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+	/**
+	 * Rough estimate of the size of an object reference in bytes, used to compare encoding sizes.
+	 */
+	private static final int REFERENCE_SIZE = 4;
+
+	/**
+	 * Value types that are safe to share between reconstructed items, in addition to strings and enums.
+	 */
+	private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>> asList(Boolean.class, Character.class,
+			Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class));
+
+	private final ColumnMapping<TDto> columnMapping;
+
+	/**
+	 * @param columnMapping Used to split items into column values when encoding and to reconstruct them on {@link List#get(int)}.
+	 */
+	public ColumnarPageEncoder(ColumnMapping<TDto> columnMapping) {
+		this.columnMapping = columnMapping;
+	}
+
+	/**
+	 * Transposes the page into columns in a single pass over the page and encodes each column separately.
+	 *
+	 * @see PageEncoder#encode(List)
+	 */
+	public List<TDto> encode(List<TDto> page) {
+		int rowCount = page.size();
+		Object[][] values = new Object[columnMapping.getColumnCount()][rowCount];
+		int row = 0;
+		for (TDto dto : page) {
+			for (int column = 0; column < values.length; column++) {
+				values[column][row] = columnMapping.getColumnValue(dto, column);
+			}
+			row++;
+		}
+		Column[] columns = new Column[values.length];
+		for (int column = 0; column < columns.length; column++) {
+			columns[column] = encodeColumn(values[column]);
+		}
+		return new ColumnarPage<TDto>(columnMapping, columns, rowCount);
+	}
+
+	/**
+	 * Picks the encoding with the smallest estimated size for the given column values.
+	 */
+	static Column encodeColumn(Object[] values) {
+		Map<Object, Integer> dictionary = new LinkedHashMap<Object, Integer>();
+		int runCount = 0;
+		boolean immutable = true;
+		boolean noNulls = true;
+		Class<?> valueType = null;
+		boolean uniformType = true;
+		for (int row = 0; row < values.length; row++) {
+			Object value = values[row];
+			if (row == 0 || !equal(value, values[row - 1])) {
+				runCount++;
+			}
+			if (!dictionary.containsKey(value)) {
+				dictionary.put(value, dictionary.size());
+			}
+			immutable &= isImmutable(value);
+			if (value == null) {
+				noNulls = false;
+			} else if (valueType == null) {
+				valueType = value.getClass();
+			} else {
+				uniformType &= valueType == value.getClass();
+			}
+		}
+
+		int valueSize = estimateValueSize(uniformType ? valueType : null);
+		int runLengthSize = immutable ? runCount * (REFERENCE_SIZE + 4 + valueSize) : Integer.MAX_VALUE;
+		int dictionarySize = immutable && dictionary.size() <= MAX_DICTIONARY_SIZE ? dictionary.size() * (REFERENCE_SIZE + valueSize)
+				+ values.length * (dictionary.size() <= 1 << 8 ? 1 : 2) : Integer.MAX_VALUE;
+		int primitiveSize = noNulls && uniformType ? estimatePrimitiveSize(valueType, values.length) : Integer.MAX_VALUE;
+		int plainSize = values.length * (REFERENCE_SIZE + valueSize);
+
+		if (runLengthSize <= dictionarySize && runLengthSize < primitiveSize && runLengthSize < plainSize) {
+			return new RunLengthColumn(values, runCount);
+		} else if (dictionarySize < primitiveSize && dictionarySize < plainSize) {
+			return new DictionaryColumn(values, dictionary);
+		} else if (primitiveSize != Integer.MAX_VALUE) {
+			return createPrimitiveColumn(valueType, values);
+		} else {
+			return new PlainColumn(values);
+		}
+	}
+
+	private static boolean isImmutable(Object value) {
+		return value == null || value instanceof String || value instanceof Enum || IMMUTABLE_TYPES.contains(value.getClass());
+	}
+
+	/**
+	 * Rough estimate of the size in bytes of a single value object of the given type, <code>null</code> meaning unknown or mixed types.
+	 * Boolean values are assumed to be the shared {@link Boolean#TRUE} and {@link Boolean#FALSE} instances.
+	 */
+	private static int estimateValueSize(Class<?> valueType) {
+		if (valueType == Boolean.class) {
+			return 0;
+		} else if (valueType == Long.class || valueType == Double.class || valueType != null && Date.class.isAssignableFrom(valueType)) {
+			return 24;
+		} else {
+			return 16;
+		}
+	}
+
+	/**
+	 * @return The estimated size in bytes of a primitive column of the given value type, or {@link Integer#MAX_VALUE} if the type can't be
+	 *         stored in a primitive column.
+	 */
+	private static int estimatePrimitiveSize(Class<?> valueType, int rowCount) {
+		if (valueType == Integer.class) {
+			return rowCount * 4;
+		} else if (valueType == Long.class || valueType == Double.class || isMillisecondsDate(valueType)) {
+			return rowCount * 8;
+		} else if (valueType == Boolean.class) {
+			return (rowCount + 7) / 8;
+		} else {
+			return Integer.MAX_VALUE;
+		}
+	}
+
+	private static Column createPrimitiveColumn(Class<?> valueType, Object[] values) {
+		if (valueType == Integer.class) {
+			int[] ints = new int[values.length];
+			for (int row = 0; row < values.length; row++) {
+				ints[row] = (Integer) values[row];
+			}
+			return new IntColumn(ints);
+		} else if (valueType == Long.class || isMillisecondsDate(valueType)) {
+			long[] longs = new long[values.length];
+			for (int row = 0; row < values.length; row++) {
+				longs[row] = valueType == Long.class ? (Long) values[row] : ((Date) values[row]).getTime();
+			}
+			return valueType == Long.class ? new LongColumn(longs) : new DateColumn(longs, valueType);
+		} else if (valueType == Double.class) {
+			double[] doubles = new double[values.length];
+			for (int row = 0; row < values.length; row++) {
+				doubles[row] = (Double) values[row];
+			}
+			return new DoubleColumn(doubles);
+		} else {
+			BitSet booleans = new BitSet(values.length);
+			for (int row = 0; row < values.length; row++) {
+				booleans.set(row, (Boolean) values[row]);
+			}
+			return new BooleanColumn(booleans);
+		}
+	}
+
+	/**
+	 * @return Whether the value type is a date type that can be recreated from its milliseconds without losing precision.
+	 */
+	private static boolean isMillisecondsDate(Class<?> valueType) {
+		return valueType == Date.class || valueType == java.sql.Date.class || valueType == java.sql.Time.class;
+	}
+
+	private static boolean equal(Object a, Object b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	/**
+	 * The cached form of an encoded page. Reconstructs items on {@link #get(int)}.
+	 */
+	static class ColumnarPage<TDto> extends AbstractList<TDto> {
+		private final ColumnMapping<TDto> columnMapping;
+		private final Column[] columns;
+		private final int rowCount;
+
+		ColumnarPage(ColumnMapping<TDto> columnMapping, Column[] columns, int rowCount) {
+			this.columnMapping = columnMapping;
+			this.columns = columns;
+			this.rowCount = rowCount;
+		}
+
+		@Override
+		public TDto get(int row) {
+			checkRow(row);
+			Object[] columnValues = new Object[columns.length];
+			for (int column = 0; column < columns.length; column++) {
+				columnValues[column] = columns[column].get(row);
+			}
+			return columnMapping.createDto(columnValues);
+		}
+
+		/**
+		 * Returns a single column value without reconstructing the item.
+		 */
+		Object getColumnValue(int row, int column) {
+			checkRow(row);
+			checkColumn(column);
+			return columns[column].get(row);
+		}
+
+		/**
+		 * Copies the column values of rows <code>fromRow</code> (inclusive) to <code>toRow</code> (exclusive) into <code>target</code>,
+		 * which must be an <code>int[]</code>, <code>long[]</code>, <code>double[]</code> or <code>boolean[]</code>.
+		 */
+		void copyColumnValues(int column, int fromRow, int toRow, Object target, int offset) {
+			if (fromRow < 0 || toRow > rowCount || fromRow > toRow) {
+				throw new IndexOutOfBoundsException("From: " + fromRow + ", To: " + toRow + ", Size: " + rowCount);
+			}
+			checkColumn(column);
+			if (target instanceof int[]) {
+				columns[column].copyInts(fromRow, toRow, (int[]) target, offset);
+			} else if (target instanceof long[]) {
+				columns[column].copyLongs(fromRow, toRow, (long[]) target, offset);
+			} else if (target instanceof double[]) {
+				columns[column].copyDoubles(fromRow, toRow, (double[]) target, offset);
+			} else {
+				columns[column].copyBooleans(fromRow, toRow, (boolean[]) target, offset);
+			}
+		}
+
+		@Override
+		public int size() {
+			return rowCount;
+		}
+
+		private void checkRow(int row) {
+			if (row < 0 || row >= rowCount) {
+				throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + rowCount);
+			}
+		}
+
+		private void checkColumn(int column) {
+			if (column < 0 || column >= columns.length) {
+				throw new IllegalArgumentException("Column: " + column + ", Column count: " + columns.length);
+			}
+		}
+	}
+
+	/**
+	 * A single encoded column of a {@link ColumnarPage}. The bulk copy methods unbox values by default and are overridden by the primitive
+	 * columns to copy their values directly.
+	 */
+	static abstract class Column {
+		abstract Object get(int row);
+
+		void copyInts(int fromRow, int toRow, int[] target, int offset) {
+			for (int row = fromRow; row < toRow; row++) {
+				target[offset++] = ((Number) get(row)).intValue();
+			}
+		}
+
+		void copyLongs(int fromRow, int toRow, long[] target, int offset) {
+			for (int row = fromRow; row < toRow; row++) {
+				Object value = get(row);
+				target[offset++] = value instanceof Date ? ((Date) value).getTime() : ((Number) value).longValue();
+			}
+		}
+
+		void copyDoubles(int fromRow, int toRow, double[] target, int offset) {
+			for (int row = fromRow; row < toRow; row++) {
+				target[offset++] = ((Number) get(row)).doubleValue();
+			}
+		}
+
+		void copyBooleans(int fromRow, int toRow, boolean[] target, int offset) {
+			for (int row = fromRow; row < toRow; row++) {
+				target[offset++] = (Boolean) get(row);
+			}
+		}
+	}
+
+	/**
+	 * Stores each run of equal values once, along with the (exclusive) row index the run ends at.
+	 */
+	static class RunLengthColumn extends Column {
+		private final Object[] runValues;
+		private final int[] runEnds;
+
+		RunLengthColumn(Object[] values, int runCount) {
+			runValues = new Object[runCount];
+			runEnds = new int[runCount];
+			int run = -1;
+			for (int row = 0; row < values.length; row++) {
+				if (row == 0 || !equal(values[row], values[row - 1])) {
+					runValues[++run] = values[row];
+				}
+				runEnds[run] = row + 1;
+			}
+		}
+
+		@Override
+		Object get(int row) {
+			int run = Arrays.binarySearch(runEnds, row + 1);
+			return runValues[run >= 0 ? run : -run - 1];
+		}
+	}
+
+	/**
+	 * Stores each distinct value once, referring to it by a <code>byte</code> or <code>short</code> code per row.
+	 */
+	static class DictionaryColumn extends Column {
+		private final Object[] dictionary;
+		private final byte[] byteCodes;
+		private final short[] shortCodes;
+
+		DictionaryColumn(Object[] values, Map<Object, Integer> dictionary) {
+			this.dictionary = new ArrayList<Object>(dictionary.keySet()).toArray();
+			boolean fitsInByte = dictionary.size() <= 1 << 8;
+			byteCodes = fitsInByte ? new byte[values.length] : null;
+			shortCodes = fitsInByte ? null : new short[values.length];
+			for (int row = 0; row < values.length; row++) {
+				int code = dictionary.get(values[row]);
+				if (fitsInByte) {
+					byteCodes[row] = (byte) code;
+				} else {
+					shortCodes[row] = (short) code;
+				}
+			}
+		}
+
+		@Override
+		Object get(int row) {
+			return dictionary[byteCodes != null ? byteCodes[row] & 0xFF : shortCodes[row] & 0xFFFF];
+		}
+	}
+
+	/**
+	 * Stores non-null <code>Integer</code> values unboxed.
+	 */
+	static class IntColumn extends Column {
+		private final int[] values;
+
+		IntColumn(int[] values) {
+			this.values = values;
+		}
+
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+
+		@Override
+		void copyInts(int fromRow, int toRow, int[] target, int offset) {
+			System.arraycopy(values, fromRow, target, offset, toRow - fromRow);
+		}
+	}
+
+	/**
+	 * Stores non-null <code>Long</code> values unboxed.
+	 */
+	static class LongColumn extends Column {
+		private final long[] values;
+
+		LongColumn(long[] values) {
+			this.values = values;
+		}
+
+		@Override
+		Object get(int row) {
+			return getLong(row);
+		}
+
+		long getLong(int row) {
+			return values[row];
+		}
+
+		@Override
+		void copyLongs(int fromRow, int toRow, long[] target, int offset) {
+			System.arraycopy(values, fromRow, target, offset, toRow - fromRow);
+		}
+	}
+
+	/**
+	 * Stores non-null <code>java.util.Date</code>, <code>java.sql.Date</code> or <code>java.sql.Time</code> values as milliseconds,
+	 * returning a new instance of the original type on every read. Bulk copies of <code>long</code> values yield the milliseconds.
+	 */
+	static class DateColumn extends LongColumn {
+		private final Class<?> dateType;
+
+		DateColumn(long[] values, Class<?> dateType) {
+			super(values);
+			this.dateType = dateType;
+		}
+
+		@Override
+		Object get(int row) {
+			if (dateType == java.sql.Date.class) {
+				return new java.sql.Date(getLong(row));
+			} else if (dateType == java.sql.Time.class) {
+				return new java.sql.Time(getLong(row));
+			} else {
+				return new Date(getLong(row));
+			}
+		}
+	}
+
+	/**
+	 * Stores non-null <code>Double</code> values unboxed.
+	 */
+	static class DoubleColumn extends Column {
+		private final double[] values;
+
+		DoubleColumn(double[] values) {
+			this.values = values;
+		}
+
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+
+		@Override
+		void copyDoubles(int fromRow, int toRow, double[] target, int offset) {
+			System.arraycopy(values, fromRow, target, offset, toRow - fromRow);
+		}
+	}
+
+	/**
+	 * Stores non-null <code>Boolean</code> values as a bit set.
+	 */
+	static class BooleanColumn extends Column {
+		private final BitSet values;
+
+		BooleanColumn(BitSet values) {
+			this.values = values;
+		}
+
+		@Override
+		Object get(int row) {
+			return values.get(row);
+		}
+
+		@Override
+		void copyBooleans(int fromRow, int toRow, boolean[] target, int offset) {
+			for (int row = fromRow; row < toRow; row++) {
+				target[offset++] = values.get(row);
+			}
+		}
+	}
+
+	/**
+	 * Stores the values as-is, for columns that don't compress. Dates are copied on every read, so they can't be modified in the cache.
+	 */
+	static class PlainColumn extends Column {
+		private final Object[] values;
+
+		PlainColumn(Object[] values) {
+			this.values = values;
+		}
+
+		@Override
+		Object get(int row) {
+			return values[row] instanceof Date ? ((Date) values[row]).clone() : values[row];
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package org.codemonkey.pagedlist;
+
+import java.util.List;
+
+/**
+ * Converts a page of data, as returned by the {@link PagedDataProvider}, into the representation that is kept in the {@link PagedList}'s
+ * page cache. Allows for a more compact in-memory form of cached pages (see {@link ColumnarPageEncoder}), as long as the returned list
+ * yields equivalent items in the same order.
+ *
+ * @author Benny Bottema
+ * @param <TDto> The object type of (remotely) persisted objects.
+ * @see PagedList#PagedList(PagedDataProvider, Object, PagedList.DataIntegrityCheckingMode, PageEncoder)
+ */
+public interface PageEncoder<TDto> {
+	/**
+	 * Encodes a freshly fetched page for caching.
+	 *
+	 * @param page A page of data as returned by {@link PagedDataProvider#provide(int, Object)}.
+	 * @return A read-only list of the same size, returning items equivalent to those in <code>page</code>, in the same order.
+	 */
+	List<TDto> encode(List<TDto> page);
+}
\ No newline at end of file
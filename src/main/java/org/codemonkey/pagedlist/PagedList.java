@@ -1,6 +1,7 @@
 package org.codemonkey.pagedlist;
 
 import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,6 +66,12 @@ public class PagedList<TDto, QueryParameters> extends AbstractList<TDto> {
 	 */
 	private final Map<Integer, List<TDto>> fetchedPages;
 
+	/**
+	 * Converts fetched pages before they are cached, see {@link PageEncoder}. Can be <code>null</code>, in which case pages are cached as
+	 * provided.
+	 */
+	private final PageEncoder<TDto> pageEncoder;
+
 	private final int pageSize;
 
 	private int dataSize;
@@ -77,15 +84,31 @@ public class PagedList<TDto, QueryParameters> extends AbstractList<TDto> {
 	 * @param queryParameters The parameters to use for future data requests. The same query parameters should apply for each data request,
 	 *            otherwise the order of pages and indeed the content won't be consistent.
 	 * @param dataIntegrityCheckingMode See {@link DataIntegrityCheckingMode}.
+	 * @param pageEncoder Converts fetched pages into their cached form, ie. a {@link ColumnarPageEncoder} to reduce the memory footprint of
+	 *            cached pages. Can be <code>null</code>.
 	 */
 	public PagedList(PagedDataProvider<TDto, QueryParameters> pagedDataProvider, QueryParameters queryParameters,
-			DataIntegrityCheckingMode dataIntegrityCheckingMode) {
+			DataIntegrityCheckingMode dataIntegrityCheckingMode, PageEncoder<TDto> pageEncoder) {
 		this.pagedDataProvider = pagedDataProvider;
 		this.queryParameters = queryParameters;
 		fetchedPages = new HashMap<Integer, List<TDto>>();
 		pageSize = pagedDataProvider.getPageSize();
 		this.dataSize = pagedDataProvider.getDataSize(queryParameters);
 		this.dataIntegrityCheckingMode = dataIntegrityCheckingMode;
+		this.pageEncoder = pageEncoder;
+	}
+
+	/**
+	 * Refers to {@link #PagedList(PagedDataProvider, Object, DataIntegrityCheckingMode, PageEncoder)} without page encoder, caching pages as
+	 * provided.
+	 * 
+	 * @param pagedDataProvider See {@link #PagedList(PagedDataProvider, Object, DataIntegrityCheckingMode, PageEncoder)}.
+	 * @param queryParameters See {@link #PagedList(PagedDataProvider, Object, DataIntegrityCheckingMode, PageEncoder)}.
+	 * @param dataIntegrityCheckingMode See {@link #PagedList(PagedDataProvider, Object, DataIntegrityCheckingMode, PageEncoder)}.
+	 */
+	public PagedList(PagedDataProvider<TDto, QueryParameters> pagedDataProvider, QueryParameters queryParameters,
+			DataIntegrityCheckingMode dataIntegrityCheckingMode) {
+		this(pagedDataProvider, queryParameters, dataIntegrityCheckingMode, null);
 	}
 
 	/**
@@ -107,21 +130,164 @@ public class PagedList<TDto, QueryParameters> extends AbstractList<TDto> {
 	 * @return See {@link List#get(int)}.
 	 */
 	public TDto get(int index) {
-		// check if we need to fetch a new page
 		int pageNr = (int) Math.floor(index / pageSize);
 		System.out.println("getting item on index " + index + " (page " + pageNr + ")");
+		checkDataIntegrityOnGet();
+		// return paged TDto
+		return getPage(pageNr).get(index % pageSize);
+	}
+
+	/**
+	 * Returns a single column value of the item at the given index, without reconstructing the item itself. Fetches the page containing
+	 * the index the same way {@link #get(int)} does. To scan a column over many items, use the bulk methods such as
+	 * {@link #getIntColumnValues(int, int, int)} instead.
+	 * 
+	 * @param index See {@link List#get(int)}.
+	 * @param column The column index, as defined by the {@link ColumnarPageEncoder.ColumnMapping}.
+	 * @return The value of the given column for the item at the given index.
+	 * @throws UnsupportedOperationException If the cached page was not encoded by a {@link ColumnarPageEncoder}.
+	 * @throws IllegalArgumentException If the column index is out of range.
+	 */
+	public Object getColumnValue(int index, int column) {
+		checkDataIntegrityOnGet();
+		return getColumnarPage(index / pageSize).getColumnValue(index % pageSize, column);
+	}
+
+	/**
+	 * Returns the values of a column for the items from <code>fromIndex</code> (inclusive) to <code>toIndex</code> (exclusive), without
+	 * reconstructing the items. Columns stored as <code>int</code> array are copied directly, other columns are unboxed as by
+	 * {@link Number#intValue()}. In {@link DataIntegrityCheckingMode#ON_GET} mode, the data integrity is checked once per invocation,
+	 * before the range is validated. In {@link DataIntegrityCheckingMode#ON_FETCH_PAGE} mode, a page fetched during the scan may reveal
+	 * the data set has changed, in which case the scan is aborted rather than returning values from before and after the change.
+	 * 
+	 * @param fromIndex The index of the first item to return the column value for.
+	 * @param toIndex The index after the last item to return the column value for.
+	 * @param column The column index, as defined by the {@link ColumnarPageEncoder.ColumnMapping}.
+	 * @return The column values, ordered by item index.
+	 * @throws UnsupportedOperationException If the cached pages were not encoded by a {@link ColumnarPageEncoder}.
+	 * @throws IllegalArgumentException If the column index is out of range.
+	 * @throws IndexOutOfBoundsException If the range is out of bounds of the (checked) data set size.
+	 * @throws NullPointerException If the column contains <code>null</code> values.
+	 * @throws ClassCastException If the column contains values that are not numbers.
+	 * @throws ConcurrentModificationException If the data set size changed during the scan.
+	 */
+	public int[] getIntColumnValues(int fromIndex, int toIndex, int column) {
+		int[] values = new int[startColumnScan(fromIndex, toIndex)];
+		copyColumnValues(fromIndex, toIndex, column, values);
+		return values;
+	}
+
+	/**
+	 * Same as {@link #getIntColumnValues(int, int, int)}, but for <code>long</code> values. Columns of <code>java.util.Date</code> values
+	 * (including subclasses such as <code>java.sql.Timestamp</code>) return their milliseconds.
+	 * 
+	 * @param fromIndex See {@link #getIntColumnValues(int, int, int)}.
+	 * @param toIndex See {@link #getIntColumnValues(int, int, int)}.
+	 * @param column See {@link #getIntColumnValues(int, int, int)}.
+	 * @return See {@link #getIntColumnValues(int, int, int)}.
+	 */
+	public long[] getLongColumnValues(int fromIndex, int toIndex, int column) {
+		long[] values = new long[startColumnScan(fromIndex, toIndex)];
+		copyColumnValues(fromIndex, toIndex, column, values);
+		return values;
+	}
+
+	/**
+	 * Same as {@link #getIntColumnValues(int, int, int)}, but for <code>double</code> values.
+	 * 
+	 * @param fromIndex See {@link #getIntColumnValues(int, int, int)}.
+	 * @param toIndex See {@link #getIntColumnValues(int, int, int)}.
+	 * @param column See {@link #getIntColumnValues(int, int, int)}.
+	 * @return See {@link #getIntColumnValues(int, int, int)}.
+	 */
+	public double[] getDoubleColumnValues(int fromIndex, int toIndex, int column) {
+		double[] values = new double[startColumnScan(fromIndex, toIndex)];
+		copyColumnValues(fromIndex, toIndex, column, values);
+		return values;
+	}
+
+	/**
+	 * Same as {@link #getIntColumnValues(int, int, int)}, but for <code>boolean</code> values.
+	 * 
+	 * @param fromIndex See {@link #getIntColumnValues(int, int, int)}.
+	 * @param toIndex See {@link #getIntColumnValues(int, int, int)}.
+	 * @param column See {@link #getIntColumnValues(int, int, int)}.
+	 * @return See {@link #getIntColumnValues(int, int, int)}.
+	 * @throws ClassCastException If the column contains values that are not booleans.
+	 */
+	public boolean[] getBooleanColumnValues(int fromIndex, int toIndex, int column) {
+		boolean[] values = new boolean[startColumnScan(fromIndex, toIndex)];
+		copyColumnValues(fromIndex, toIndex, column, values);
+		return values;
+	}
+
+	/**
+	 * Checks data integrity in {@link DataIntegrityCheckingMode#ON_GET} mode, before validating the range against the (possibly updated)
+	 * data set size.
+	 * 
+	 * @return The number of items in the range.
+	 */
+	private int startColumnScan(int fromIndex, int toIndex) {
+		checkDataIntegrityOnGet();
+		if (fromIndex < 0 || toIndex > dataSize || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + dataSize);
+		}
+		return toIndex - fromIndex;
+	}
+
+	/**
+	 * Copies the column values page by page into the given primitive array.
+	 */
+	private void copyColumnValues(int fromIndex, int toIndex, int column, Object target) {
+		int scanDataSize = dataSize;
+		int index = fromIndex;
+		while (index < toIndex) {
+			int row = index % pageSize;
+			int rows = Math.min(pageSize - row, toIndex - index);
+			ColumnarPageEncoder.ColumnarPage<TDto> page = getColumnarPage(index / pageSize);
+			if (dataSize != scanDataSize) {
+				throw new ConcurrentModificationException("data set size changed from " + scanDataSize + " to " + dataSize
+						+ " during column scan");
+			}
+			page.copyColumnValues(column, row, row + rows, target, index - fromIndex);
+			index += rows;
+		}
+	}
+
+	/**
+	 * Returns the cached page, which must have been encoded by a {@link ColumnarPageEncoder}.
+	 */
+	private ColumnarPageEncoder.ColumnarPage<TDto> getColumnarPage(int pageNr) {
+		List<TDto> page = getPage(pageNr);
+		if (!(page instanceof ColumnarPageEncoder.ColumnarPage)) {
+			throw new UnsupportedOperationException("column access requires pages encoded by a ColumnarPageEncoder");
+		}
+		return (ColumnarPageEncoder.ColumnarPage<TDto>) page;
+	}
+
+	/**
+	 * Checks if our data has gone stale, but only in {@link DataIntegrityCheckingMode#ON_GET} mode.
+	 */
+	private void checkDataIntegrityOnGet() {
 		if (dataIntegrityCheckingMode == DataIntegrityCheckingMode.ON_GET) {
 			performDataIntegrityCheck();
 		}
+	}
+
+	/**
+	 * Returns the cached page, fetching (and encoding) it first if needed.
+	 */
+	private List<TDto> getPage(int pageNr) {
+		// check if we need to fetch a new page
 		if (fetchedPages.get(pageNr) == null) {
 			if (dataIntegrityCheckingMode == DataIntegrityCheckingMode.ON_FETCH_PAGE) {
 				performDataIntegrityCheck();
 			}
 			System.out.println("page not found, fetching page " + pageNr + "...");
-			fetchedPages.put(pageNr, pagedDataProvider.provide(pageNr, queryParameters));
+			List<TDto> page = pagedDataProvider.provide(pageNr, queryParameters);
+			fetchedPages.put(pageNr, pageEncoder != null ? pageEncoder.encode(page) : page);
 		}
-		// return paged TDto
-		return fetchedPages.get(pageNr).get(index % pageSize);
+		return fetchedPages.get(pageNr);
 	}
 
 	/**
@@ -0,0 +1,274 @@
+package org.codemonkey.pagedlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.sql.Timestamp;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.codemonkey.pagedlist.ColumnarPageEncoder.BooleanColumn;
+import org.codemonkey.pagedlist.ColumnarPageEncoder.ColumnMapping;
+import org.codemonkey.pagedlist.ColumnarPageEncoder.DateColumn;
+import org.codemonkey.pagedlist.ColumnarPageEncoder.DictionaryColumn;
+import org.codemonkey.pagedlist.ColumnarPageEncoder.DoubleColumn;
+import org.codemonkey.pagedlist.ColumnarPageEncoder.IntColumn;
+import org.codemonkey.pagedlist.ColumnarPageEncoder.LongColumn;
+import org.codemonkey.pagedlist.ColumnarPageEncoder.PlainColumn;
+import org.codemonkey.pagedlist.ColumnarPageEncoder.RunLengthColumn;
+import org.junit.Test;
+
+/**
+ * JUnit test for {@link ColumnarPageEncoder}.
+ *
+ * @author Benny Bottema
+ */
+@SuppressWarnings("javadoc")
+public class ColumnarPageEncoderTest {
+
+	@Test
+	public void testEncodeColumnPicksSmallestEncoding() {
+		Object[] runs = { "open", "open", "open", "open", "closed", "closed", "closed", "closed" };
+		Object[] lowCardinality = { "a", "b", "a", "b", "a", "b", "a", "b" };
+		Object[] integers = { 1, 2, 3, 4, 5, 6, 7, 8 };
+		Object[] strings = { "1", "2", "3", "4", "5", "6", "7", "8" };
+
+		assertTrue(ColumnarPageEncoder.encodeColumn(runs) instanceof RunLengthColumn);
+		assertTrue(ColumnarPageEncoder.encodeColumn(lowCardinality) instanceof DictionaryColumn);
+		assertTrue(ColumnarPageEncoder.encodeColumn(integers) instanceof IntColumn);
+		assertTrue(ColumnarPageEncoder.encodeColumn(strings) instanceof PlainColumn);
+
+		assertColumnValues(runs);
+		assertColumnValues(lowCardinality);
+		assertColumnValues(integers);
+		assertColumnValues(strings);
+	}
+
+	@Test
+	public void testEncodeColumnWithPrimitiveValues() {
+		Object[] longs = new Object[10];
+		Object[] doubles = new Object[10];
+		Object[] booleans = new Object[10];
+		Object[] dates = new Object[10];
+		for (int i = 0; i < 10; i++) {
+			longs[i] = 10000000000L + i;
+			doubles[i] = i / 3d;
+			booleans[i] = i % 3 == 0;
+			dates[i] = new Date(1000000000000L + i);
+		}
+
+		assertTrue(ColumnarPageEncoder.encodeColumn(longs) instanceof LongColumn);
+		assertTrue(ColumnarPageEncoder.encodeColumn(doubles) instanceof DoubleColumn);
+		assertTrue(ColumnarPageEncoder.encodeColumn(booleans) instanceof BooleanColumn);
+		assertTrue(ColumnarPageEncoder.encodeColumn(dates) instanceof DateColumn);
+
+		assertColumnValues(longs);
+		assertColumnValues(doubles);
+		assertColumnValues(booleans);
+		assertColumnValues(dates);
+	}
+
+	@Test
+	public void testEncodeColumnWithNullValues() {
+		assertColumnValues(new Object[] { null, null, null, "a", "a", "a", null, null });
+		assertColumnValues(new Object[] { null, "a", null, "a", null, "a", null, "a" });
+		assertColumnValues(new Object[] { 1, 2, 3, null, 5, 6, 7, 8 });
+		assertColumnValues(new Object[] { null, null, null });
+	}
+
+	@Test
+	public void testEncodeColumnWithLargeDictionary() {
+		Object[] values = new Object[1000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = "value " + (i % 300);
+		}
+		assertTrue(ColumnarPageEncoder.encodeColumn(values) instanceof DictionaryColumn);
+		assertColumnValues(values);
+	}
+
+	@Test
+	public void testEncodeColumnDoesNotShareMutableValues() {
+		Object[] dates = new Object[8];
+		Object[] lists = new Object[8];
+		for (int i = 0; i < 8; i++) {
+			dates[i] = new Date(1000000000000L);
+			lists[i] = new ArrayList<String>(Arrays.asList("a"));
+		}
+
+		ColumnarPageEncoder.Column dateColumn = ColumnarPageEncoder.encodeColumn(dates);
+		assertEquals(dates[0], dateColumn.get(5));
+		assertNotSame(dateColumn.get(0), dateColumn.get(5));
+		assertNotSame(dateColumn.get(0), dateColumn.get(0));
+		((Date) dateColumn.get(0)).setTime(0);
+		assertEquals(dates[0], dateColumn.get(0));
+
+		// other mutable values are not shared between rows, but are between reads of the same row
+		ColumnarPageEncoder.Column listColumn = ColumnarPageEncoder.encodeColumn(lists);
+		assertTrue(listColumn instanceof PlainColumn);
+		assertNotSame(listColumn.get(0), listColumn.get(5));
+		assertSame(listColumn.get(0), listColumn.get(0));
+	}
+
+	@Test
+	public void testEncodeColumnWithDateSubclassesAndNulls() {
+		Object[] sqlDates = new Object[8];
+		Object[] timestamps = new Object[8];
+		Object[] datesWithNulls = new Object[8];
+		for (int i = 0; i < 8; i++) {
+			sqlDates[i] = new java.sql.Date(1000000000000L + i);
+			Timestamp timestamp = new Timestamp(1000000000000L + i);
+			timestamp.setNanos(123456789);
+			timestamps[i] = timestamp;
+			datesWithNulls[i] = i % 2 == 0 ? new Date(1000000000000L + i) : null;
+		}
+
+		ColumnarPageEncoder.Column sqlDateColumn = ColumnarPageEncoder.encodeColumn(sqlDates);
+		assertTrue(sqlDateColumn instanceof DateColumn);
+		assertSame(java.sql.Date.class, sqlDateColumn.get(3).getClass());
+		assertColumnValues(sqlDates);
+
+		// timestamps keep their nanoseconds and are copied on every read
+		ColumnarPageEncoder.Column timestampColumn = ColumnarPageEncoder.encodeColumn(timestamps);
+		assertTrue(timestampColumn instanceof PlainColumn);
+		assertColumnValues(timestamps);
+		assertNotSame(timestampColumn.get(0), timestampColumn.get(0));
+		((Timestamp) timestampColumn.get(0)).setNanos(0);
+		assertEquals(timestamps[0], timestampColumn.get(0));
+		long[] millis = new long[2];
+		timestampColumn.copyLongs(0, 2, millis, 0);
+		assertTrue(Arrays.equals(new long[] { ((Date) timestamps[0]).getTime(), ((Date) timestamps[1]).getTime() }, millis));
+
+		ColumnarPageEncoder.Column datesWithNullsColumn = ColumnarPageEncoder.encodeColumn(datesWithNulls);
+		assertTrue(datesWithNullsColumn instanceof PlainColumn);
+		assertColumnValues(datesWithNulls);
+		assertNotSame(datesWithNullsColumn.get(0), datesWithNullsColumn.get(0));
+		((Date) datesWithNullsColumn.get(0)).setTime(0);
+		assertEquals(datesWithNulls[0], datesWithNullsColumn.get(0));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testCopyIntsFromDateColumn() {
+		ColumnarPageEncoder.encodeColumn(new Object[] { new Date(), new Date() }).copyInts(0, 2, new int[2], 0);
+	}
+
+	@Test
+	public void testPrimitiveColumnsCopyWithoutBoxing() {
+		int[] ints = new int[3];
+		new IntColumn(new int[] { 1000, 2000, 3000, 4000 }) {
+			@Override
+			Object get(int row) {
+				fail("boxed read");
+				return null;
+			}
+		}.copyInts(1, 4, ints, 0);
+		assertTrue(Arrays.equals(new int[] { 2000, 3000, 4000 }, ints));
+
+		long[] longs = new long[2];
+		new LongColumn(new long[] { 10000000000L, 20000000000L }) {
+			@Override
+			Object get(int row) {
+				fail("boxed read");
+				return null;
+			}
+		}.copyLongs(0, 2, longs, 0);
+		assertTrue(Arrays.equals(new long[] { 10000000000L, 20000000000L }, longs));
+
+		double[] doubles = new double[2];
+		new DoubleColumn(new double[] { 0.5, 1.5 }) {
+			@Override
+			Object get(int row) {
+				fail("boxed read");
+				return null;
+			}
+		}.copyDoubles(0, 2, doubles, 0);
+		assertTrue(Arrays.equals(new double[] { 0.5, 1.5 }, doubles));
+
+		BitSet bits = new BitSet();
+		bits.set(1);
+		boolean[] booleans = new boolean[3];
+		new BooleanColumn(bits) {
+			@Override
+			Object get(int row) {
+				fail("boxed read");
+				return null;
+			}
+		}.copyBooleans(0, 3, booleans, 0);
+		assertTrue(Arrays.equals(new boolean[] { false, true, false }, booleans));
+	}
+
+	@Test
+	public void testEncodePage() {
+		List<Row> page = new ArrayList<Row>();
+		page.add(new Row(1, "open", "north"));
+		page.add(new Row(2, "open", "south"));
+		page.add(new Row(3, null, "north"));
+
+		List<Row> encodedPage = new ColumnarPageEncoder<Row>(new RowColumnMapping()).encode(page);
+		assertEquals(page, encodedPage);
+		assertEquals(page, encodedPage.subList(0, 3));
+		assertEquals(page, new ColumnarPageEncoder<Row>(new RowColumnMapping()).encode(new LinkedList<Row>(page)));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testEncodedPageOutOfBounds() {
+		List<Row> encodedPage = new ColumnarPageEncoder<Row>(new RowColumnMapping()).encode(Arrays.asList(new Row(1, "open", "north")));
+		encodedPage.get(1);
+	}
+
+	private static void assertColumnValues(Object[] values) {
+		ColumnarPageEncoder.Column column = ColumnarPageEncoder.encodeColumn(values);
+		for (int row = 0; row < values.length; row++) {
+			assertEquals(values[row], column.get(row));
+		}
+	}
+
+	/**
+	 * Test item with an <code>int</code> column, a status column and a region column.
+	 */
+	private static class Row {
+		final int id;
+		final String status;
+		final String region;
+
+		Row(int id, String status, String region) {
+			this.id = id;
+			this.status = status;
+			this.region = region;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Row && ((Row) obj).id == id && equal(status, ((Row) obj).status) && equal(region, ((Row) obj).region);
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+
+		private static boolean equal(String a, String b) {
+			return a == null ? b == null : a.equals(b);
+		}
+	}
+
+	private static class RowColumnMapping implements ColumnMapping<Row> {
+		public int getColumnCount() {
+			return 3;
+		}
+
+		public Object getColumnValue(Row row, int column) {
+			return column == 0 ? row.id : column == 1 ? row.status : row.region;
+		}
+
+		public Row createDto(Object[] columnValues) {
+			return new Row((Integer) columnValues[0], (String) columnValues[1], (String) columnValues[2]);
+		}
+	}
+}
\ No newline at end of file
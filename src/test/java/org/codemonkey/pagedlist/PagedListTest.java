@@ -3,9 +3,13 @@ package org.codemonkey.pagedlist;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedList;
 import java.util.List;
 
 import org.codemonkey.pagedlist.PagedList.DataIntegrityCheckingMode;
@@ -295,6 +299,219 @@ public class PagedListTest {
 		assertEquals(1, testableProvider.page2Request);
 	}
 
+	@Test
+	public void testBasicPagingWithColumnarPageEncoder() {
+		TestableBasicPagedDataProvider testableProvider = new TestableBasicPagedDataProvider();
+		PagedList<Integer, Object> pagedList = new PagedList<Integer, Object>(testableProvider, dummyQueryparameters,
+				DataIntegrityCheckingMode.ON_FETCH_PAGE, new ColumnarPageEncoder<Integer>(new IntegerColumnMapping()));
+
+		expectedPage = 1;
+		int n4 = pagedList.get(3);
+		assertEquals(4, n4);
+		assertEquals(5, pagedList.getColumnValue(4, 0));
+
+		expectedPage = 0;
+		assertEquals(1, pagedList.getColumnValue(0, 0));
+		int n2 = pagedList.get(1);
+		assertEquals(2, n2);
+
+		assertEquals(1, testableProvider.page0Request);
+		assertEquals(1, testableProvider.page1Request);
+		assertEquals(0, testableProvider.page2Request);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testColumnValueWithoutColumnarPageEncoder() {
+		PagedList<Integer, Object> pagedList = new PagedList<Integer, Object>(new TestableBasicPagedDataProvider(), dummyQueryparameters);
+		pagedList.getColumnValue(0, 0);
+	}
+
+	@Test
+	public void testColumnarPagingWithMultiColumnRows() {
+		TestableRowProvider testableProvider = new TestableRowProvider();
+		PagedList<Row, Object> pagedList = new PagedList<Row, Object>(testableProvider, null, DataIntegrityCheckingMode.ON_FETCH_PAGE,
+				new ColumnarPageEncoder<Row>(new RowColumnMapping()));
+
+		for (int index = 0; index < 8; index++) {
+			assertEquals(TestableRowProvider.createRow(index), pagedList.get(index));
+		}
+		// status column is run-length encoded, region column is dictionary encoded
+		assertEquals("open", pagedList.getColumnValue(2, 1));
+		assertEquals("closed", pagedList.getColumnValue(5, 1));
+		assertEquals("north", pagedList.getColumnValue(4, 2));
+		assertEquals("south", pagedList.getColumnValue(7, 2));
+		assertEquals(7, pagedList.getColumnValue(6, 0));
+
+		assertTrue(Arrays.equals(new int[] { 3, 4, 5, 6, 7 }, pagedList.getIntColumnValues(2, 7, 0)));
+		assertTrue(Arrays.equals(new long[] { 1, 2, 3, 4, 5, 6, 7, 8 }, pagedList.getLongColumnValues(0, 8, 0)));
+		assertTrue(Arrays.equals(new double[0], pagedList.getDoubleColumnValues(3, 3, 0)));
+
+		assertEquals(1, testableProvider.pageRequests[0]);
+		assertEquals(1, testableProvider.pageRequests[1]);
+	}
+
+	@Test
+	public void testColumnScanDoesNotReconstructItems() {
+		TestableRowProvider testableProvider = new TestableRowProvider();
+		PagedList<Row, Object> pagedList = new PagedList<Row, Object>(testableProvider, null, DataIntegrityCheckingMode.ON_GET,
+				new ColumnarPageEncoder<Row>(new RowColumnMapping() {
+					@Override
+					public Row createDto(Object[] columnValues) {
+						fail("item reconstructed during column scan");
+						return null;
+					}
+				}));
+
+		assertTrue(Arrays.equals(new int[] { 2, 3, 4, 5, 6, 7, 8 }, pagedList.getIntColumnValues(1, 8, 0)));
+		assertEquals("closed", pagedList.getColumnValue(4, 1));
+		// data integrity is checked once per scan, rather than once per value
+		assertEquals(3, testableProvider.dataSizeRequests);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testColumnValueWithInvalidColumn() {
+		PagedList<Row, Object> pagedList = new PagedList<Row, Object>(new TestableRowProvider(), null,
+				DataIntegrityCheckingMode.ON_FETCH_PAGE, new ColumnarPageEncoder<Row>(new RowColumnMapping()));
+		pagedList.getColumnValue(0, 3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testColumnValuesWithInvalidColumn() {
+		PagedList<Row, Object> pagedList = new PagedList<Row, Object>(new TestableRowProvider(), null,
+				DataIntegrityCheckingMode.ON_FETCH_PAGE, new ColumnarPageEncoder<Row>(new RowColumnMapping()));
+		pagedList.getIntColumnValues(0, 8, -1);
+	}
+
+	@Test
+	public void testColumnarPagingWithChangedDataSet() {
+		TestableRowProvider testableProvider = new TestableRowProvider();
+		PagedList<Row, Object> pagedList = new PagedList<Row, Object>(testableProvider, null, DataIntegrityCheckingMode.ON_FETCH_PAGE,
+				new ColumnarPageEncoder<Row>(new RowColumnMapping()));
+
+		assertEquals(TestableRowProvider.createRow(0), pagedList.get(0));
+		assertEquals(TestableRowProvider.createRow(4), pagedList.get(4));
+
+		// the list should recognize its cached data has become stale when fetching page 2 and reset
+		testableProvider.dataSize = 9;
+		assertEquals(TestableRowProvider.createRow(8), pagedList.get(8));
+		assertEquals(9, pagedList.size());
+
+		// pages 0 and 1 are fetched and encoded again
+		assertTrue(Arrays.equals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 }, pagedList.getIntColumnValues(0, 9, 0)));
+		assertEquals("open", pagedList.getColumnValue(8, 1));
+		assertEquals(2, testableProvider.pageRequests[0]);
+		assertEquals(2, testableProvider.pageRequests[1]);
+		assertEquals(1, testableProvider.pageRequests[2]);
+	}
+
+	@Test
+	public void testColumnScanWithShrunkDataSetAndCheckDataIntegrityOnGet() {
+		TestableRowProvider testableProvider = new TestableRowProvider();
+		PagedList<Row, Object> pagedList = new PagedList<Row, Object>(testableProvider, null, DataIntegrityCheckingMode.ON_GET,
+				new ColumnarPageEncoder<Row>(new RowColumnMapping()));
+		assertEquals(TestableRowProvider.createRow(0), pagedList.get(0));
+
+		// the range should be validated against the new data set size, before any page is (re)fetched
+		testableProvider.dataSize = 5;
+		try {
+			pagedList.getIntColumnValues(0, 8, 0);
+			fail("range exceeding the shrunk data set accepted");
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("From: 0, To: 8, Size: 5", e.getMessage());
+		}
+		assertEquals(1, testableProvider.pageRequests[0]);
+		assertTrue(Arrays.equals(new int[] { 1, 2, 3, 4, 5 }, pagedList.getIntColumnValues(0, 5, 0)));
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testColumnScanWithChangedDataSetAndCheckDataIntegrityOnFetchPage() {
+		TestableRowProvider testableProvider = new TestableRowProvider();
+		PagedList<Row, Object> pagedList = new PagedList<Row, Object>(testableProvider, null, DataIntegrityCheckingMode.ON_FETCH_PAGE,
+				new ColumnarPageEncoder<Row>(new RowColumnMapping()));
+		assertEquals(TestableRowProvider.createRow(0), pagedList.get(0));
+
+		// fetching page 1 during the scan resets the cache, page 0's values can no longer be trusted
+		testableProvider.dataSize = 9;
+		pagedList.getIntColumnValues(0, 8, 0);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testColumnValueWithOverriddenColumnarPageEncoder() {
+		PagedList<Row, Object> pagedList = new PagedList<Row, Object>(new TestableRowProvider(), null,
+				DataIntegrityCheckingMode.ON_FETCH_PAGE, new ColumnarPageEncoder<Row>(new RowColumnMapping()) {
+					@Override
+					public List<Row> encode(List<Row> page) {
+						return page;
+					}
+				});
+		pagedList.getColumnValue(0, 0);
+	}
+
+	/**
+	 * Maps an <code>Integer</code> item to a single column holding the item itself.
+	 * 
+	 * @author Benny Bottema
+	 */
+	private static class IntegerColumnMapping implements ColumnarPageEncoder.ColumnMapping<Integer> {
+		public int getColumnCount() {
+			return 1;
+		}
+
+		public Object getColumnValue(Integer dto, int column) {
+			return dto;
+		}
+
+		public Integer createDto(Object[] columnValues) {
+			return (Integer) columnValues[0];
+		}
+	}
+
+	/**
+	 * Test item with an <code>int</code> column, a status column and a region column.
+	 * 
+	 * @author Benny Bottema
+	 */
+	private static class Row {
+		final int id;
+		final String status;
+		final String region;
+
+		Row(int id, String status, String region) {
+			this.id = id;
+			this.status = status;
+			this.region = region;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Row && ((Row) obj).id == id && status.equals(((Row) obj).status) && region.equals(((Row) obj).region);
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+	}
+
+	/**
+	 * Maps a {@link Row} to its id, status and region columns.
+	 * 
+	 * @author Benny Bottema
+	 */
+	private static class RowColumnMapping implements ColumnarPageEncoder.ColumnMapping<Row> {
+		public int getColumnCount() {
+			return 3;
+		}
+
+		public Object getColumnValue(Row row, int column) {
+			return column == 0 ? row.id : column == 1 ? row.status : row.region;
+		}
+
+		public Row createDto(Object[] columnValues) {
+			return new Row((Integer) columnValues[0], (String) columnValues[1], (String) columnValues[2]);
+		}
+	}
+
 	/**
 	 * <p>
 	 * Basic provider which returns a fixed list of numbers ranging from 1 to 9 distributed over 3 pages of 3 items (page size 3). Verifies
@@ -470,4 +687,40 @@ public class PagedListTest {
 			return 2;
 		}
 	}
+
+	/**
+	 * Provides 8 (or any other number, when instructed by the junit test) {@link Row}s over pages of 4 items. Rows in a page share the same status and
+	 * alternate in region, so that the status column is run-length encoded and the region column dictionary encoded. Keeps track of all
+	 * the page and data size requests.
+	 * 
+	 * @author Benny Bottema
+	 */
+	private static class TestableRowProvider implements PagedDataProvider<Row, Object> {
+		public final int[] pageRequests = new int[3];
+		public int dataSizeRequests = 0;
+
+		private int dataSize = 8;
+
+		static Row createRow(int index) {
+			return new Row(index + 1, (index / 4) % 2 == 0 ? "open" : "closed", index % 2 == 0 ? "north" : "south");
+		}
+
+		public List<Row> provide(int page, Object queryParameters) {
+			List<Row> results = new LinkedList<Row>();
+			for (int index = page * 4; index < Math.min(page * 4 + 4, dataSize); index++) {
+				results.add(createRow(index));
+			}
+			pageRequests[page]++;
+			return results;
+		}
+
+		public int getDataSize(Object queryParameters) {
+			dataSizeRequests++;
+			return dataSize;
+		}
+
+		public int getPageSize() {
+			return 4;
+		}
+	}
 }
\ No newline at end of file